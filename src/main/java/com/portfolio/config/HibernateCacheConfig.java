@@ -0,0 +1,65 @@
+package com.portfolio.config;
+
+import com.portfolio.model.Asset;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Regiony second-level cache Hibernate'a (Ehcache przez JCache).
+ * Każdy region ma ograniczoną liczbę wpisów na heapie - najstarsze są usuwane po przekroczeniu limitu.
+ * Wyłączenie: portfolio.cache.enabled=false (steruje też przełącznikami Hibernate'a w application.properties)
+ */
+@Configuration
+@ConditionalOnProperty(name = "portfolio.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${portfolio.cache.asset.max-entries:200000}") long assetMaxEntries,
+            @Value("${portfolio.cache.query.max-entries:1000}") long queryMaxEntries,
+            @Value("${portfolio.cache.time-to-live:10m}") Duration timeToLive) {
+
+        org.ehcache.config.Configuration configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(Asset.class.getName(), heapCache(assetMaxEntries, timeToLive))
+                .withCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, heapCache(queryMaxEntries, timeToLive))
+                // Znaczniki czasu modyfikacji tabel nie mogą wygasać wcześniej niż wyniki zapytań
+                .withCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, heapCache(queryMaxEntries, null))
+                .build();
+
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // Osobny URI dla każdego kontekstu Springa, żeby konteksty testowe nie dzieliły regionów
+        return provider.getCacheManager(URI.create("urn:portfolio:hibernate-cache:" + UUID.randomUUID()), configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private CacheConfiguration<Object, Object> heapCache(long maxEntries, Duration timeToLive) {
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries));
+        if (timeToLive != null) {
+            builder = builder.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive));
+        }
+        return builder.build();
+    }
+}
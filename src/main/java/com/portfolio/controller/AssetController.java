@@ -1,6 +1,8 @@
 package com.portfolio.controller;
 
 import com.portfolio.dto.AssetDto;
+import com.portfolio.dto.BulkDeleteResult;
+import com.portfolio.dto.PortfolioBreakdown;
 import com.portfolio.dto.PortfolioSummary;
 import com.portfolio.service.PortfolioService;
 import jakarta.validation.Valid;
@@ -37,6 +39,15 @@ public class AssetController {
         return ResponseEntity.noContent().build();
     }
 
+    // DELETE /assets?ids=1,2,3 | ?namePattern=Test% | ?zeroQuantity=true - usuwanie zbiorcze
+    @DeleteMapping("/assets")
+    public ResponseEntity<BulkDeleteResult> deleteAssets(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String namePattern,
+            @RequestParam(defaultValue = "false") boolean zeroQuantity) {
+        return ResponseEntity.ok(portfolioService.deleteAssets(ids, namePattern, zeroQuantity));
+    }
+
     // GET /portfolio/summary - podsumowanie całego portfela
     @GetMapping("/portfolio/summary")
     public ResponseEntity<PortfolioSummary> getPortfolioSummary() {
@@ -48,4 +59,10 @@ public class AssetController {
     public ResponseEntity<AssetDto> getTopAsset() {
         return ResponseEntity.ok(portfolioService.getTopAsset());
     }
+
+    // GET /portfolio/breakdown?by=sector|assetClass|tag - sumy per grupa
+    @GetMapping("/portfolio/breakdown")
+    public ResponseEntity<PortfolioBreakdown> getPortfolioBreakdown(@RequestParam(defaultValue = "sector") String by) {
+        return ResponseEntity.ok(portfolioService.getPortfolioBreakdown(by));
+    }
 }
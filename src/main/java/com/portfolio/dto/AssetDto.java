@@ -1,11 +1,15 @@
 package com.portfolio.dto;
 
+import com.portfolio.model.AssetClass;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -27,6 +31,13 @@ public class AssetDto {
     @NotNull @Positive
     private BigDecimal currentPrice;
 
+    @Size(max = 100)
+    private String sector;
+
+    private AssetClass assetClass;
+
+    private Set<@Pattern(regexp = "[^,]*", message = "Tag cannot contain commas") String> tags;
+
     private BigDecimal currentValue;
     private BigDecimal investedValue;
     private BigDecimal roi;
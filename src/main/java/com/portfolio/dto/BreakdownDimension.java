@@ -0,0 +1,29 @@
+package com.portfolio.dto;
+
+import com.portfolio.exception.InvalidBreakdownDimensionException;
+
+import java.util.Arrays;
+
+public enum BreakdownDimension {
+    SECTOR("sector"),
+    ASSET_CLASS("assetClass"),
+    TAG("tag");
+
+    private final String param;
+
+    BreakdownDimension(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    // Parsowanie parametru ?by=... (bez rozróżniania wielkości liter)
+    public static BreakdownDimension fromParam(String value) {
+        return Arrays.stream(values())
+                .filter(d -> d.param.equalsIgnoreCase(value) || d.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new InvalidBreakdownDimensionException(value));
+    }
+}
@@ -0,0 +1,15 @@
+package com.portfolio.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDeleteResult {
+    private int deletedCount;
+    private List<Long> missingIds; // tylko przy usuwaniu po ids - id, których nie było w bazie
+}
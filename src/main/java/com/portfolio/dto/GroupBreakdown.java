@@ -0,0 +1,20 @@
+package com.portfolio.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GroupBreakdown {
+    private String group;
+    private long assetCount;
+    private BigDecimal totalInvestedValue;
+    private BigDecimal totalCurrentValue;
+    private BigDecimal totalProfit;
+    private BigDecimal weightedROI;    // ROI ważone zainwestowaną kwotą: profit / invested * 100
+    private BigDecimal portfolioShare; // udział procentowy w wartości całego portfela
+}
@@ -0,0 +1,17 @@
+package com.portfolio.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortfolioBreakdown {
+    private String by;
+    private BigDecimal totalCurrentValue;
+    private List<GroupBreakdown> groups;
+}
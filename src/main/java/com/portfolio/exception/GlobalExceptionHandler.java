@@ -18,6 +18,16 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidBreakdownDimensionException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidBreakdownDimension(InvalidBreakdownDimensionException ex) {
+        return buildError(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidBulkDeleteException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidBulkDelete(InvalidBulkDeleteException ex) {
+        return buildError(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult().getFieldErrors().stream()
@@ -0,0 +1,7 @@
+package com.portfolio.exception;
+
+public class InvalidBreakdownDimensionException extends RuntimeException {
+    public InvalidBreakdownDimensionException(String value) {
+        super("Unsupported breakdown dimension: " + value + " (expected: sector, assetClass, tag)");
+    }
+}
@@ -0,0 +1,7 @@
+package com.portfolio.exception;
+
+public class InvalidBulkDeleteException extends RuntimeException {
+    public InvalidBulkDeleteException(String message) {
+        super(message);
+    }
+}
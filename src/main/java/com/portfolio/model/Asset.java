@@ -5,11 +5,17 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Entity
 @Table(name = "assets")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,4 +45,17 @@ public class Asset {
     @Positive(message = "Current price must be positive")
     @Column(nullable = false, precision = 19, scale = 8)
     private BigDecimal currentPrice;
+
+    // Klasyfikacja - opcjonalna, używana w /portfolio/breakdown
+    @Column(length = 100)
+    private String sector;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private AssetClass assetClass;
+
+    @Convert(converter = TagSetConverter.class)
+    @Column(length = 1000)
+    @Builder.Default
+    private Set<String> tags = new TreeSet<>();
 }
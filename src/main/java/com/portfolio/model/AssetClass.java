@@ -0,0 +1,11 @@
+package com.portfolio.model;
+
+public enum AssetClass {
+    EQUITY,
+    BOND,
+    CRYPTO,
+    COMMODITY,
+    REAL_ESTATE,
+    CASH,
+    OTHER
+}
@@ -0,0 +1,46 @@
+package com.portfolio.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Tagi trzymane w jednej kolumnie jako "tag1,tag2" - bez osobnej tabeli i bez dodatkowych zapytań przy findAll.
+ */
+@Converter
+public class TagSetConverter implements AttributeConverter<Set<String>, String> {
+
+    private static final String SEPARATOR = ",";
+
+    @Override
+    public String convertToDatabaseColumn(Set<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return null;
+        }
+        return String.join(SEPARATOR, normalize(tags));
+    }
+
+    @Override
+    public Set<String> convertToEntityAttribute(String column) {
+        if (column == null || column.isBlank()) {
+            return new TreeSet<>();
+        }
+        return normalize(Arrays.asList(column.split(SEPARATOR)));
+    }
+
+    public static TreeSet<String> normalize(Iterable<String> tags) {
+        TreeSet<String> result = new TreeSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    result.add(tag.trim());
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -1,9 +1,45 @@
 package com.portfolio.repository;
 
 import com.portfolio.model.Asset;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface AssetRepository extends JpaRepository<Asset, Long> {
+public interface AssetRepository extends JpaRepository<Asset, Long>, AssetRepositoryCustom {
+
+    // Wyniki trafiają do query cache; Hibernate unieważnia je przy każdym zapisie do tabeli assets
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Asset> findAll();
+
+    // -----------------------------------------------
+    // Usuwanie zbiorcze po id (wywoływane paczkami); zwraca liczbę usuniętych wierszy.
+    // Bulk DELETE w JPQL czyści cały region Asset w second-level cache.
+    // -----------------------------------------------
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Asset a where a.id in :ids")
+    int deleteAssetsByIds(@Param("ids") Collection<Long> ids);
+
+    // -----------------------------------------------
+    // Id assetów do usunięcia - indeks breakdownu odejmuje je po id
+    // -----------------------------------------------
+
+    @Query("select a.id from Asset a where a.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.id from Asset a where a.name like :pattern")
+    List<Long> findIdsByNameLike(@Param("pattern") String pattern);
+
+    @Query("select a.id from Asset a where a.quantity = 0")
+    List<Long> findIdsWithZeroQuantity();
 }
@@ -0,0 +1,7 @@
+package com.portfolio.repository;
+
+public interface AssetRepositoryCustom {
+
+    // Usuwa asset jednym zapytaniem DELETE; zwraca liczbę usuniętych wierszy (0 albo 1)
+    int deleteAssetById(Long id);
+}
@@ -0,0 +1,38 @@
+package com.portfolio.repository;
+
+import com.portfolio.model.Asset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+
+class AssetRepositoryCustomImpl implements AssetRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Asset w second-level cache usuwamy przez persistence context: encja przychodzi z cache (bez SELECT-a),
+     * a DELETE unieważnia tylko jej wpis. Bulk DELETE w JPQL wyczyściłby cały region Asset,
+     * dlatego używamy go tylko wtedy, gdy assetu i tak nie ma w cache.
+     */
+    @Override
+    public int deleteAssetById(Long id) {
+        if (entityManager.getEntityManagerFactory().getCache().contains(Asset.class, id)) {
+            Asset asset = entityManager.find(Asset.class, id);
+            if (asset == null) {
+                return 0;
+            }
+            entityManager.remove(asset);
+            try {
+                entityManager.flush();
+            } catch (OptimisticLockException ex) {
+                // Wiersz usunięty równolegle - DELETE nie trafił w żaden wiersz
+                return 0;
+            }
+            return 1;
+        }
+        return entityManager.createQuery("delete from Asset a where a.id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+}
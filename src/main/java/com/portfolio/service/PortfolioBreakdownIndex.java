@@ -0,0 +1,194 @@
+package com.portfolio.service;
+
+import com.portfolio.dto.BreakdownDimension;
+import com.portfolio.model.Asset;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Sumy per grupa (sektor / klasa aktywów / tag) aktualizowane przy każdej zmianie portfela,
+ * więc odczyt breakdownu kosztuje O(liczba grup), a nie O(liczba assetów).
+ * Asset z kilkoma tagami wlicza się do każdej ze swoich grup tagów.
+ * Indeks pamięta wkład każdego assetu (id → wartości), więc usunięcie odejmuje go bez odczytu encji.
+ * <p>
+ * Ładowanie (loadIfNeeded) czyta wszystkie assety poza monitorem indeksu - kosztuje O(liczba assetów)
+ * i odbywa się raz, a potem po upływie maxAge (co koryguje zapisy spoza tej instancji). Zmiany, które
+ * skończą się commitem w trakcie odczytu, trafiają do dziennika i są odtwarzane na świeżo załadowanych
+ * sumach - dodanie jest pomijane dla znanego id, usunięcie dla nieznanego, więc zmiana widoczna już
+ * w odczycie nie liczy się podwójnie. Dziennik rośnie o jeden wpis na commit w trakcie jednego odczytu.
+ */
+class PortfolioBreakdownIndex {
+
+    static final String UNCLASSIFIED = "UNCLASSIFIED";
+    static final String UNTAGGED = "UNTAGGED";
+
+    private final Map<BreakdownDimension, Map<String, GroupTotals>> groups = new EnumMap<>(BreakdownDimension.class);
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final Object loadLock = new Object();
+    private BigDecimal totalCurrentValue = BigDecimal.ZERO;
+    private boolean loaded;
+    private Instant loadedAt;
+    private Duration maxAge = Duration.ofMinutes(5);
+    // Zmiany zacommitowane w trakcie ładowania; null poza ładowaniem
+    private List<Runnable> journal;
+
+    PortfolioBreakdownIndex() {
+        for (BreakdownDimension dimension : BreakdownDimension.values()) {
+            groups.put(dimension, new HashMap<>());
+        }
+    }
+
+    synchronized void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded && (maxAge == null || Instant.now().isBefore(loadedAt.plus(maxAge)));
+    }
+
+    /**
+     * Pełne przeliczenie, jeśli indeks nie jest załadowany albo jest starszy niż maxAge.
+     * Równoległe wywołania czekają na jedno ładowanie.
+     */
+    void loadIfNeeded(Supplier<Map<Long, Contribution>> reader) {
+        if (isLoaded()) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (isLoaded()) {
+                return;
+            }
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            Map<Long, Contribution> byId;
+            try {
+                byId = reader.get();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    journal = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                groups.values().forEach(Map::clear);
+                contributions.clear();
+                totalCurrentValue = BigDecimal.ZERO;
+                byId.forEach(this::addInternal);
+                journal.forEach(Runnable::run);
+                journal = null;
+                loaded = true;
+                loadedAt = Instant.now();
+            }
+        }
+    }
+
+    // Wołane po commicie; przed pierwszym ładowaniem zmiany są pomijane - load i tak odczyta stan z bazy
+    synchronized void add(Long id, Contribution contribution) {
+        apply(() -> addInternal(id, contribution));
+    }
+
+    // Id, których indeks nie zna (np. usunięte już wcześniej), są pomijane
+    synchronized void removeAll(Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        apply(() -> removed.forEach(this::removeInternal));
+    }
+
+    synchronized Snapshot snapshot(BreakdownDimension dimension) {
+        return new Snapshot(totalCurrentValue, new ArrayList<>(groups.get(dimension).values()));
+    }
+
+    private void apply(Runnable mutation) {
+        if (journal != null) {
+            journal.add(mutation);
+        } else if (loaded) {
+            mutation.run();
+        }
+    }
+
+    private void addInternal(Long id, Contribution contribution) {
+        if (contributions.putIfAbsent(id, contribution) == null) {
+            applyInternal(contribution, 1);
+        }
+    }
+
+    private void removeInternal(Long id) {
+        Contribution contribution = contributions.remove(id);
+        if (contribution != null) {
+            applyInternal(contribution, -1);
+        }
+    }
+
+    private void applyInternal(Contribution contribution, int sign) {
+        for (BreakdownDimension dimension : BreakdownDimension.values()) {
+            Map<String, GroupTotals> dimensionGroups = groups.get(dimension);
+            for (String key : contribution.keys(dimension)) {
+                GroupTotals updated = dimensionGroups
+                        .getOrDefault(key, GroupTotals.empty(key))
+                        .plus(contribution, sign);
+                if (updated.assetCount() == 0) {
+                    dimensionGroups.remove(key);
+                } else {
+                    dimensionGroups.put(key, updated);
+                }
+            }
+        }
+        BigDecimal delta = contribution.currentValue();
+        totalCurrentValue = sign > 0 ? totalCurrentValue.add(delta) : totalCurrentValue.subtract(delta);
+    }
+
+    // -----------------------------------------------
+    // Typy pomocnicze
+    // -----------------------------------------------
+
+    record Contribution(String sector, String assetClass, Set<String> tags,
+                        BigDecimal currentValue, BigDecimal investedValue) {
+
+        static Contribution of(Asset asset, BigDecimal currentValue, BigDecimal investedValue) {
+            String sector = asset.getSector() == null || asset.getSector().isBlank()
+                    ? UNCLASSIFIED : asset.getSector().trim();
+            String assetClass = asset.getAssetClass() == null ? UNCLASSIFIED : asset.getAssetClass().name();
+            Set<String> tags = asset.getTags() == null || asset.getTags().isEmpty()
+                    ? Set.of(UNTAGGED) : Set.copyOf(asset.getTags());
+            return new Contribution(sector, assetClass, tags, currentValue, investedValue);
+        }
+
+        Collection<String> keys(BreakdownDimension dimension) {
+            return switch (dimension) {
+                case SECTOR -> List.of(sector);
+                case ASSET_CLASS -> List.of(assetClass);
+                case TAG -> tags;
+            };
+        }
+    }
+
+    record GroupTotals(String group, long assetCount, BigDecimal currentValue, BigDecimal investedValue) {
+
+        static GroupTotals empty(String group) {
+            return new GroupTotals(group, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+
+        GroupTotals plus(Contribution contribution, int sign) {
+            return sign > 0
+                    ? new GroupTotals(group, assetCount + 1,
+                            currentValue.add(contribution.currentValue()),
+                            investedValue.add(contribution.investedValue()))
+                    : new GroupTotals(group, assetCount - 1,
+                            currentValue.subtract(contribution.currentValue()),
+                            investedValue.subtract(contribution.investedValue()));
+        }
+    }
+
+    record Snapshot(BigDecimal totalCurrentValue, List<GroupTotals> groups) {
+    }
+}
@@ -1,19 +1,34 @@
 package com.portfolio.service;
 
 import com.portfolio.dto.AssetDto;
+import com.portfolio.dto.BreakdownDimension;
+import com.portfolio.dto.BulkDeleteResult;
+import com.portfolio.dto.GroupBreakdown;
+import com.portfolio.dto.PortfolioBreakdown;
 import com.portfolio.dto.PortfolioSummary;
 import com.portfolio.exception.AssetNotFoundException;
+import com.portfolio.exception.InvalidBulkDeleteException;
 import com.portfolio.model.Asset;
+import com.portfolio.model.TagSetConverter;
 import com.portfolio.repository.AssetRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,8 +36,11 @@ public class PortfolioService {
 
     private static final int SCALE = 4;
     private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    private static final int BULK_DELETE_CHUNK_SIZE = 500;
+    private static final int MAX_BULK_DELETE_IDS = 10_000;
 
     private final AssetRepository assetRepository;
+    private final PortfolioBreakdownIndex breakdownIndex = new PortfolioBreakdownIndex();
 
     // -----------------------------------------------
     // CRUD
@@ -32,6 +50,8 @@ public class PortfolioService {
     public AssetDto addAsset(AssetDto dto) {
         Asset asset = toEntity(dto);
         Asset saved = assetRepository.save(asset);
+        PortfolioBreakdownIndex.Contribution contribution = toContribution(saved);
+        updateBreakdownAfterCommit(() -> breakdownIndex.add(saved.getId(), contribution));
         return toDto(saved, BigDecimal.ZERO); // portfolioShare obliczamy przy liście
     }
 
@@ -44,12 +64,47 @@ public class PortfolioService {
                 .toList();
     }
 
+    /**
+     * Jedno zapytanie DELETE ... WHERE id = ?. Indeks breakdownu odejmuje asset po id,
+     * bez odczytywania encji.
+     */
     @Transactional
     public void deleteAsset(Long id) {
-        if (!assetRepository.existsById(id)) {
+        if (assetRepository.deleteAssetById(id) == 0) {
             throw new AssetNotFoundException(id);
         }
-        assetRepository.deleteById(id);
+        updateBreakdownAfterCommit(() -> breakdownIndex.removeAll(List.of(id)));
+    }
+
+    /**
+     * Usuwanie zbiorcze w jednej transakcji - dokładnie jedno kryterium: ids, namePattern (SQL LIKE) albo zeroQuantity.
+     */
+    @Transactional
+    public BulkDeleteResult deleteAssets(List<Long> ids, String namePattern, boolean zeroQuantity) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byName = namePattern != null && !namePattern.isBlank();
+        int criteria = (byIds ? 1 : 0) + (byName ? 1 : 0) + (zeroQuantity ? 1 : 0);
+        if (criteria != 1) {
+            throw new InvalidBulkDeleteException("Exactly one of ids, namePattern or zeroQuantity=true is required");
+        }
+
+        if (byIds) {
+            if (ids.size() > MAX_BULK_DELETE_IDS) {
+                throw new InvalidBulkDeleteException("At most " + MAX_BULK_DELETE_IDS + " ids per request");
+            }
+            if (ids.stream().anyMatch(Objects::isNull)) {
+                throw new InvalidBulkDeleteException("ids must not contain empty values");
+            }
+            return deleteAssetsByIds(ids);
+        }
+        List<Long> matching = byName
+                ? assetRepository.findIdsByNameLike(namePattern)
+                : assetRepository.findIdsWithZeroQuantity();
+        int deleted = deleteInChunks(matching);
+        return BulkDeleteResult.builder()
+                .deletedCount(deleted)
+                .missingIds(List.of())
+                .build();
     }
 
     // -----------------------------------------------
@@ -104,6 +159,38 @@ public class PortfolioService {
                 .orElseThrow(() -> new AssetNotFoundException(-1L));
     }
 
+    // Maksymalny wiek indeksu - po nim indeks jest przeliczany z bazy (zapisy spoza tej instancji)
+    @Value("${portfolio.breakdown.max-age:5m}")
+    void setBreakdownMaxAge(Duration maxAge) {
+        breakdownIndex.setMaxAge(maxAge);
+    }
+
+    /**
+     * Sumy per sektor / klasę aktywów / tag z indeksu aktualizowanego przy zapisie i usunięciu.
+     * Pełny odczyt assetów następuje przy pierwszym wywołaniu i ponownie po upływie portfolio.breakdown.max-age.
+     */
+    @Transactional(readOnly = true)
+    public PortfolioBreakdown getPortfolioBreakdown(String by) {
+        BreakdownDimension dimension = BreakdownDimension.fromParam(by);
+        breakdownIndex.loadIfNeeded(() -> assetRepository.findAll().stream()
+                .collect(Collectors.toMap(Asset::getId, this::toContribution)));
+
+        PortfolioBreakdownIndex.Snapshot snapshot = breakdownIndex.snapshot(dimension);
+        BigDecimal totalCurrentValue = snapshot.totalCurrentValue();
+
+        List<GroupBreakdown> groups = snapshot.groups().stream()
+                .sorted(Comparator.comparing(PortfolioBreakdownIndex.GroupTotals::currentValue).reversed()
+                        .thenComparing(PortfolioBreakdownIndex.GroupTotals::group))
+                .map(g -> toGroupBreakdown(g, totalCurrentValue))
+                .toList();
+
+        return PortfolioBreakdown.builder()
+                .by(dimension.getParam())
+                .totalCurrentValue(totalCurrentValue.setScale(SCALE, ROUNDING))
+                .groups(groups)
+                .build();
+    }
+
     // -----------------------------------------------
     // Obliczenia (public dla testów jednostkowych)
     // -----------------------------------------------
@@ -148,18 +235,105 @@ public class PortfolioService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    private BulkDeleteResult deleteAssetsByIds(List<Long> ids) {
+        List<Long> requested = List.copyOf(new LinkedHashSet<>(ids));
+        List<Long> existing = new ArrayList<>();
+        for (List<Long> chunk : chunks(requested)) {
+            existing.addAll(assetRepository.findExistingIds(chunk));
+        }
+
+        Set<Long> missing = new LinkedHashSet<>(requested);
+        existing.forEach(missing::remove);
+        return BulkDeleteResult.builder()
+                .deletedCount(deleteInChunks(existing))
+                .missingIds(List.copyOf(missing))
+                .build();
+    }
+
+    /**
+     * DELETE ... WHERE id IN (...) paczkami po BULK_DELETE_CHUNK_SIZE (limit parametrów w klauzuli IN,
+     * np. Oracle 1000). Usuwamy dokładnie te id, które indeks breakdownu odejmie po commicie -
+     * wiersze dodane równolegle i pasujące do predykatu zostają nietknięte.
+     */
+    private int deleteInChunks(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deleted = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            deleted += assetRepository.deleteAssetsByIds(chunk);
+        }
+        List<Long> removed = List.copyOf(ids);
+        updateBreakdownAfterCommit(() -> breakdownIndex.removeAll(removed));
+        return deleted;
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_DELETE_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BULK_DELETE_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private BigDecimal calculateShare(BigDecimal value, BigDecimal totalCurrentValue) {
+        if (totalCurrentValue.compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+        return value
+                .divide(totalCurrentValue, MathContext.DECIMAL128)
+                .multiply(BigDecimal.valueOf(100))
+                .setScale(SCALE, ROUNDING);
+    }
+
+    // Zmiany indeksu dopiero po commicie, żeby rollback nie zostawił w nim śladu.
+    // Zmiana zacommitowana w trakcie ładowania indeksu trafia do jego dziennika i jest odtwarzana po odczycie.
+    private void updateBreakdownAfterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private PortfolioBreakdownIndex.Contribution toContribution(Asset asset) {
+        return PortfolioBreakdownIndex.Contribution.of(asset,
+                calculateCurrentValue(asset.getQuantity(), asset.getCurrentPrice()),
+                calculateInvestedValue(asset.getQuantity(), asset.getPurchasePrice()));
+    }
+
+    private GroupBreakdown toGroupBreakdown(PortfolioBreakdownIndex.GroupTotals totals, BigDecimal totalCurrentValue) {
+        BigDecimal profit = totals.currentValue().subtract(totals.investedValue());
+        BigDecimal weightedROI = BigDecimal.ZERO;
+        if (totals.investedValue().compareTo(BigDecimal.ZERO) != 0) {
+            weightedROI = profit
+                    .divide(totals.investedValue(), MathContext.DECIMAL128)
+                    .multiply(BigDecimal.valueOf(100))
+                    .setScale(SCALE, ROUNDING);
+        }
+
+        return GroupBreakdown.builder()
+                .group(totals.group())
+                .assetCount(totals.assetCount())
+                .totalCurrentValue(totals.currentValue().setScale(SCALE, ROUNDING))
+                .totalInvestedValue(totals.investedValue().setScale(SCALE, ROUNDING))
+                .totalProfit(profit.setScale(SCALE, ROUNDING))
+                .weightedROI(weightedROI)
+                .portfolioShare(calculateShare(totals.currentValue(), totalCurrentValue))
+                .build();
+    }
+
     private AssetDto toDto(Asset asset, BigDecimal totalCurrentValue) {
         BigDecimal currentValue = calculateCurrentValue(asset.getQuantity(), asset.getCurrentPrice());
         BigDecimal investedValue = calculateInvestedValue(asset.getQuantity(), asset.getPurchasePrice());
         BigDecimal roi = calculateROI(asset.getQuantity(), asset.getPurchasePrice(), asset.getCurrentPrice());
 
-        BigDecimal portfolioShare = BigDecimal.ZERO;
-        if (totalCurrentValue.compareTo(BigDecimal.ZERO) != 0) {
-            portfolioShare = currentValue
-                    .divide(totalCurrentValue, MathContext.DECIMAL128)
-                    .multiply(BigDecimal.valueOf(100))
-                    .setScale(SCALE, ROUNDING);
-        }
+        BigDecimal portfolioShare = calculateShare(currentValue, totalCurrentValue);
 
         return AssetDto.builder()
                 .id(asset.getId())
@@ -167,6 +341,9 @@ public class PortfolioService {
                 .quantity(asset.getQuantity())
                 .purchasePrice(asset.getPurchasePrice())
                 .currentPrice(asset.getCurrentPrice())
+                .sector(asset.getSector())
+                .assetClass(asset.getAssetClass())
+                .tags(asset.getTags())
                 .currentValue(currentValue)
                 .investedValue(investedValue)
                 .roi(roi)
@@ -180,6 +357,9 @@ public class PortfolioService {
                 .quantity(dto.getQuantity())
                 .purchasePrice(dto.getPurchasePrice())
                 .currentPrice(dto.getCurrentPrice())
+                .sector(dto.getSector())
+                .assetClass(dto.getAssetClass())
+                .tags(TagSetConverter.normalize(dto.getTags()))
                 .build();
     }
 }
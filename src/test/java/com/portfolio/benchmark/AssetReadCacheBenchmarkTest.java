@@ -0,0 +1,103 @@
+package com.portfolio.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Porównanie czasu odpowiedzi /assets i /portfolio/top przy pustym (cold) i zapełnionym (warm) second-level cache.
+ * Uruchomienie: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AssetReadCacheBenchmarkTest {
+
+    private static final int ASSET_COUNT = 100_000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void seedAssets() {
+        List<Object[]> rows = new ArrayList<>(ASSET_COUNT);
+        for (int i = 0; i < ASSET_COUNT; i++) {
+            rows.add(new Object[]{
+                    "Asset-" + i,
+                    BigDecimal.valueOf(1 + i % 50),
+                    BigDecimal.valueOf(100 + i % 97),
+                    BigDecimal.valueOf(80 + i % 131)
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO assets (name, quantity, purchase_price, current_price) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    @DisplayName("GET /assets - cold vs warm cache przy 100k assetów")
+    void benchmarkGetAssets() throws Exception {
+        compare("/assets");
+    }
+
+    @Test
+    @DisplayName("GET /portfolio/top - cold vs warm cache przy 100k assetów")
+    void benchmarkGetTopAsset() throws Exception {
+        compare("/portfolio/top");
+    }
+
+    // -----------------------------------------------
+    // Helpers
+    // -----------------------------------------------
+
+    private void compare(String path) throws Exception {
+        double coldMs = measure(path, true);
+        double warmMs = measure(path, false);
+        System.out.printf("[benchmark] GET %-16s assets=%d cold=%.1f ms warm=%.1f ms speedup=%.2fx%n",
+                path, ASSET_COUNT, coldMs, warmMs, coldMs / warmMs);
+    }
+
+    private double measure(String path, boolean evictBeforeEachCall) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call(path, evictBeforeEachCall);
+        }
+        long totalNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            totalNanos += call(path, evictBeforeEachCall);
+        }
+        return totalNanos / 1_000_000.0 / MEASURED_ITERATIONS;
+    }
+
+    private long call(String path, boolean evictBeforeEachCall) throws Exception {
+        if (evictBeforeEachCall) {
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        }
+        long start = System.nanoTime();
+        mockMvc.perform(get(path)).andExpect(status().isOk());
+        return System.nanoTime() - start;
+    }
+}
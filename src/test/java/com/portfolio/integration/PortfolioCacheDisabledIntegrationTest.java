@@ -0,0 +1,64 @@
+package com.portfolio.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.config.HibernateCacheConfig;
+import com.portfolio.dto.AssetDto;
+import com.portfolio.model.Asset;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "portfolio.cache.enabled=false")
+@AutoConfigureMockMvc
+class PortfolioCacheDisabledIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("portfolio.cache.enabled=false powinien uruchomić aplikację bez second-level cache")
+    void shouldWorkWithCacheDisabled() throws Exception {
+        assertThat(applicationContext.getBeanNamesForType(HibernateCacheConfig.class)).isEmpty();
+
+        AssetDto dto = AssetDto.builder()
+                .name("Apple")
+                .quantity(new BigDecimal("10"))
+                .purchasePrice(new BigDecimal("100"))
+                .currentPrice(new BigDecimal("150"))
+                .build();
+        String response = mockMvc.perform(post("/assets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long id = objectMapper.readTree(response).get("id").asLong();
+
+        mockMvc.perform(get("/assets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        assertThat(entityManagerFactory.getCache().contains(Asset.class, id)).isFalse();
+    }
+}
@@ -2,6 +2,9 @@ package com.portfolio.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.portfolio.dto.AssetDto;
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetClass;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +15,9 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -27,6 +32,9 @@ class PortfolioIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     // -----------------------------------------------
     // Helper
     // -----------------------------------------------
@@ -130,4 +138,182 @@ class PortfolioIntegrationTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").exists());
     }
+
+    // -----------------------------------------------
+    // Test 5: Second-level cache - unieważnianie po zapisie i usunięciu
+    // -----------------------------------------------
+
+    @Test
+    @DisplayName("GET /assets po POST i DELETE powinien zwracać aktualne dane mimo cache")
+    void getAssets_shouldReflectMutationsDespiteCache() throws Exception {
+        String response = mockMvc.perform(post("/assets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(buildAssetDto("Apple", "10", "100", "150"))))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long appleId = objectMapper.readTree(response).get("id").asLong();
+
+        // Pierwszy odczyt zapełnia cache
+        mockMvc.perform(get("/assets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        assertThat(entityManagerFactory.getCache().contains(Asset.class, appleId)).isTrue();
+
+        mockMvc.perform(post("/assets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(buildAssetDto("Tesla", "5", "200", "100"))));
+
+        mockMvc.perform(get("/assets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(delete("/assets/" + appleId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/assets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Tesla"));
+
+        mockMvc.perform(delete("/assets/" + appleId))
+                .andExpect(status().isNotFound());
+    }
+
+    // -----------------------------------------------
+    // Test 6: GET /portfolio/breakdown
+    // -----------------------------------------------
+
+    @Test
+    @DisplayName("GET /portfolio/breakdown?by=sector powinien zwrócić sumy per sektor")
+    void getBreakdown_shouldReturnTotalsPerSector() throws Exception {
+        AssetDto apple = buildAssetDto("Apple", "10", "100", "150");
+        apple.setSector("Technology");
+        apple.setAssetClass(AssetClass.EQUITY);
+        apple.setTags(Set.of("us"));
+        AssetDto microsoft = buildAssetDto("Microsoft", "5", "300", "350");
+        microsoft.setSector("Technology");
+        AssetDto exxon = buildAssetDto("Exxon", "10", "100", "50");
+        exxon.setSector("Energy");
+
+        // Pierwszy odczyt ładuje indeks, kolejne zmiany są do niego dopisywane
+        mockMvc.perform(get("/portfolio/breakdown"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groups.length()").value(0));
+
+        for (AssetDto dto : new AssetDto[]{apple, microsoft, exxon}) {
+            mockMvc.perform(post("/assets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/portfolio/breakdown").param("by", "sector"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.by").value("sector"))
+                // Technology: 1500 + 1750 = 3250, Energy: 500 → total 3750
+                .andExpect(jsonPath("$.totalCurrentValue").value(3750.0))
+                .andExpect(jsonPath("$.groups[0].group").value("Technology"))
+                .andExpect(jsonPath("$.groups[0].assetCount").value(2))
+                .andExpect(jsonPath("$.groups[0].totalInvestedValue").value(2500.0))
+                .andExpect(jsonPath("$.groups[0].totalProfit").value(750.0))
+                .andExpect(jsonPath("$.groups[0].weightedROI").value(30.0))
+                .andExpect(jsonPath("$.groups[1].group").value("Energy"))
+                .andExpect(jsonPath("$.groups[1].weightedROI").value(-50.0));
+
+        mockMvc.perform(get("/assets"))
+                .andExpect(jsonPath("$[0].assetClass").value("EQUITY"))
+                .andExpect(jsonPath("$[0].tags[0]").value("us"));
+
+        mockMvc.perform(get("/portfolio/breakdown").param("by", "country"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -----------------------------------------------
+    // Test 7: DELETE /assets?ids=... i ?namePattern=...
+    // -----------------------------------------------
+
+    @Test
+    @DisplayName("DELETE /assets?ids=... powinien usunąć istniejące assety i zwrócić brakujące id")
+    void bulkDelete_shouldReturnCountAndMissingIds() throws Exception {
+        Long[] ids = new Long[3];
+        String[] names = {"Test-1", "Test-2", "Apple"};
+        for (int i = 0; i < names.length; i++) {
+            AssetDto dto = buildAssetDto(names[i], "10", "100", "150");
+            dto.setSector(i < 2 ? "Test" : "Technology");
+            String response = mockMvc.perform(post("/assets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            ids[i] = objectMapper.readTree(response).get("id").asLong();
+        }
+        mockMvc.perform(get("/portfolio/breakdown"))
+                .andExpect(jsonPath("$.groups.length()").value(2));
+
+        mockMvc.perform(delete("/assets").param("ids", ids[0] + "," + 999))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedCount").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(999));
+
+        mockMvc.perform(delete("/assets").param("namePattern", "Test-%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedCount").value(1));
+
+        mockMvc.perform(get("/assets"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Apple"));
+        mockMvc.perform(get("/portfolio/breakdown"))
+                .andExpect(jsonPath("$.groups.length()").value(1))
+                .andExpect(jsonPath("$.groups[0].group").value("Technology"))
+                .andExpect(jsonPath("$.totalCurrentValue").value(1500.0));
+
+        mockMvc.perform(delete("/assets"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/assets").param("ids", ids[2] + ",," + ids[2]))
+                .andExpect(status().isBadRequest());
+    }
+
+    // -----------------------------------------------
+    // Test 8: DELETE /assets/{id} przy załadowanym breakdownie
+    // -----------------------------------------------
+
+    @Test
+    @DisplayName("DELETE /assets/{id} powinien zaktualizować breakdown niezależnie od tego, czy asset jest w cache")
+    void deleteAsset_shouldKeepBreakdownConsistent() throws Exception {
+        Long[] ids = new Long[2];
+        String[] sectors = {"Technology", "Energy"};
+        for (int i = 0; i < sectors.length; i++) {
+            AssetDto dto = buildAssetDto("Asset-" + i, "10", "100", "150");
+            dto.setSector(sectors[i]);
+            String response = mockMvc.perform(post("/assets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            ids[i] = objectMapper.readTree(response).get("id").asLong();
+        }
+        mockMvc.perform(get("/portfolio/breakdown"))
+                .andExpect(jsonPath("$.groups.length()").value(2));
+
+        // Asset w second-level cache - z cache znika tylko jego wpis, nie cały region
+        assertThat(entityManagerFactory.getCache().contains(Asset.class, ids[0])).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Asset.class, ids[1])).isTrue();
+        mockMvc.perform(delete("/assets/" + ids[0]))
+                .andExpect(status().isNoContent());
+        assertThat(entityManagerFactory.getCache().contains(Asset.class, ids[1])).isTrue();
+        mockMvc.perform(get("/portfolio/breakdown"))
+                .andExpect(jsonPath("$.groups.length()").value(1))
+                .andExpect(jsonPath("$.groups[0].group").value("Energy"));
+
+        // Asset poza cache - bulk DELETE po id, indeks odejmuje asset po id
+        entityManagerFactory.getCache().evictAll();
+        mockMvc.perform(delete("/assets/" + ids[1]))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/portfolio/breakdown"))
+                .andExpect(jsonPath("$.groups.length()").value(0))
+                .andExpect(jsonPath("$.totalCurrentValue").value(0.0));
+    }
 }
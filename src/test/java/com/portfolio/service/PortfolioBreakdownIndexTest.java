@@ -0,0 +1,67 @@
+package com.portfolio.service;
+
+import com.portfolio.dto.BreakdownDimension;
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetClass;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PortfolioBreakdownIndexTest {
+
+    private final PortfolioBreakdownIndex index = new PortfolioBreakdownIndex();
+
+    private PortfolioBreakdownIndex.Contribution contribution(String name, String value) {
+        Asset asset = Asset.builder().name(name).assetClass(AssetClass.EQUITY).build();
+        return PortfolioBreakdownIndex.Contribution.of(asset, new BigDecimal(value), new BigDecimal(value));
+    }
+
+    @Test
+    @DisplayName("Zmiany zacommitowane w trakcie ładowania powinny zostać odtworzone na załadowanych sumach")
+    void shouldReplayMutationsCommittedDuringLoad() {
+        PortfolioBreakdownIndex.Contribution apple = contribution("Apple", "1500");
+        PortfolioBreakdownIndex.Contribution tesla = contribution("Tesla", "2000");
+        PortfolioBreakdownIndex.Contribution shell = contribution("Shell", "700");
+
+        index.loadIfNeeded(() -> {
+            // Apple: commit widoczny już w odczycie - odtworzenie nie może go policzyć podwójnie
+            index.add(1L, apple);
+            // Tesla: commit po odczycie - odczyt jej nie widzi
+            index.add(2L, tesla);
+            // Shell: usunięty po odczycie
+            index.removeAll(List.of(3L));
+            return Map.of(1L, apple, 3L, shell);
+        });
+
+        assertThat(index.isLoaded()).isTrue();
+        PortfolioBreakdownIndex.Snapshot snapshot = index.snapshot(BreakdownDimension.ASSET_CLASS);
+        assertThat(snapshot.totalCurrentValue()).isEqualByComparingTo(new BigDecimal("3500"));
+        assertThat(snapshot.groups()).singleElement()
+                .satisfies(g -> assertThat(g.assetCount()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("Zmiany przed pierwszym ładowaniem powinny być pomijane")
+    void shouldIgnoreMutationsBeforeFirstLoad() {
+        index.add(1L, contribution("Apple", "1500"));
+
+        assertThat(index.isLoaded()).isFalse();
+        index.loadIfNeeded(Map::of);
+        assertThat(index.snapshot(BreakdownDimension.ASSET_CLASS).groups()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Indeks starszy niż maxAge powinien wymagać ponownego załadowania")
+    void shouldExpireAfterMaxAge() {
+        index.setMaxAge(Duration.ZERO);
+
+        index.loadIfNeeded(Map::of);
+        assertThat(index.isLoaded()).isFalse();
+    }
+}
@@ -1,8 +1,15 @@
 package com.portfolio.service;
 
 import com.portfolio.dto.AssetDto;
+import com.portfolio.dto.BulkDeleteResult;
+import com.portfolio.dto.GroupBreakdown;
+import com.portfolio.dto.PortfolioBreakdown;
 import com.portfolio.dto.PortfolioSummary;
+import com.portfolio.exception.AssetNotFoundException;
+import com.portfolio.exception.InvalidBreakdownDimensionException;
+import com.portfolio.exception.InvalidBulkDeleteException;
 import com.portfolio.model.Asset;
+import com.portfolio.model.AssetClass;
 import com.portfolio.repository.AssetRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,9 +20,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -41,6 +51,9 @@ class PortfolioServiceTest {
                 .quantity(new BigDecimal("10"))
                 .purchasePrice(new BigDecimal("100"))
                 .currentPrice(new BigDecimal("150"))
+                .sector("Technology")
+                .assetClass(AssetClass.EQUITY)
+                .tags(Set.of("us", "growth"))
                 .build();
 
         // Bitcoin: kupiono za 40000, teraz 30000 → ROI = -25%
@@ -50,6 +63,8 @@ class PortfolioServiceTest {
                 .quantity(new BigDecimal("1"))
                 .purchasePrice(new BigDecimal("40000"))
                 .currentPrice(new BigDecimal("30000"))
+                .assetClass(AssetClass.CRYPTO)
+                .tags(Set.of("growth"))
                 .build();
     }
 
@@ -179,4 +194,224 @@ class PortfolioServiceTest {
         // averageROI = (50 + (-25)) / 2 = 12.5%
         assertThat(summary.getAverageROI()).isEqualByComparingTo(new BigDecimal("12.5000"));
     }
+
+    // -----------------------------------------------
+    // Breakdown per grupa
+    // -----------------------------------------------
+
+    @Test
+    @DisplayName("Breakdown po sektorze powinien sumować wartości per grupa, bez sektora → UNCLASSIFIED")
+    void shouldBreakDownBySector() {
+        when(assetRepository.findAll()).thenReturn(List.of(appleAsset, bitcoinAsset));
+
+        PortfolioBreakdown breakdown = portfolioService.getPortfolioBreakdown("sector");
+
+        // Bitcoin (30000) > Apple (1500) → kolejność malejąco po wartości
+        assertThat(breakdown.getGroups()).extracting(GroupBreakdown::getGroup)
+                .containsExactly("UNCLASSIFIED", "Technology");
+        GroupBreakdown technology = breakdown.getGroups().get(1);
+        assertThat(technology.getAssetCount()).isEqualTo(1);
+        assertThat(technology.getTotalProfit()).isEqualByComparingTo(new BigDecimal("500"));
+        assertThat(technology.getWeightedROI()).isEqualByComparingTo(new BigDecimal("50.0000"));
+        // 1500 / 31500 * 100
+        assertThat(technology.getPortfolioShare()).isEqualByComparingTo(new BigDecimal("4.7619"));
+    }
+
+    @Test
+    @DisplayName("Breakdown po tagu powinien wliczać asset do każdej jego grupy tagów")
+    void shouldBreakDownByTag() {
+        when(assetRepository.findAll()).thenReturn(List.of(appleAsset, bitcoinAsset));
+
+        PortfolioBreakdown breakdown = portfolioService.getPortfolioBreakdown("tag");
+
+        GroupBreakdown growth = breakdown.getGroups().get(0);
+        assertThat(growth.getGroup()).isEqualTo("growth");
+        assertThat(growth.getAssetCount()).isEqualTo(2);
+        // (31500 - 41000) / 41000 * 100
+        assertThat(growth.getWeightedROI()).isEqualByComparingTo(new BigDecimal("-23.1707"));
+        assertThat(breakdown.getGroups()).extracting(GroupBreakdown::getGroup).contains("us");
+    }
+
+    @Test
+    @DisplayName("Dodanie i usunięcie assetu powinno aktualizować breakdown bez ponownego findAll")
+    void shouldUpdateBreakdownIncrementally() {
+        when(assetRepository.findAll()).thenReturn(List.of(appleAsset));
+        portfolioService.getPortfolioBreakdown("assetClass");
+
+        when(assetRepository.save(any(Asset.class))).thenReturn(bitcoinAsset);
+        portfolioService.addAsset(AssetDto.builder()
+                .name("Bitcoin")
+                .quantity(new BigDecimal("1"))
+                .purchasePrice(new BigDecimal("40000"))
+                .currentPrice(new BigDecimal("30000"))
+                .assetClass(AssetClass.CRYPTO)
+                .build());
+
+        when(assetRepository.deleteAssetById(1L)).thenReturn(1);
+        portfolioService.deleteAsset(1L);
+
+        PortfolioBreakdown breakdown = portfolioService.getPortfolioBreakdown("assetClass");
+
+        assertThat(breakdown.getGroups()).extracting(GroupBreakdown::getGroup).containsExactly("CRYPTO");
+        assertThat(breakdown.getTotalCurrentValue()).isEqualByComparingTo(new BigDecimal("30000"));
+        assertThat(breakdown.getGroups().get(0).getPortfolioShare()).isEqualByComparingTo(new BigDecimal("100.0000"));
+        verify(assetRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Commit w trakcie ładowania indeksu breakdownu powinien zostać odtworzony bez ponownego odczytu")
+    void shouldReplayAssetCommittedDuringLoad() {
+        when(assetRepository.save(any(Asset.class))).thenReturn(bitcoinAsset);
+        // W trakcie findAll inna "transakcja" zapisuje Bitcoina, odczyt go nie widzi
+        when(assetRepository.findAll()).thenAnswer(inv -> {
+            portfolioService.addAsset(AssetDto.builder()
+                    .name("Bitcoin")
+                    .quantity(new BigDecimal("1"))
+                    .purchasePrice(new BigDecimal("40000"))
+                    .currentPrice(new BigDecimal("30000"))
+                    .build());
+            return List.of(appleAsset);
+        });
+
+        PortfolioBreakdown first = portfolioService.getPortfolioBreakdown("assetClass");
+        PortfolioBreakdown second = portfolioService.getPortfolioBreakdown("assetClass");
+
+        assertThat(first.getGroups()).extracting(GroupBreakdown::getGroup).containsExactly("CRYPTO", "EQUITY");
+        assertThat(second.getTotalCurrentValue()).isEqualByComparingTo(new BigDecimal("31500"));
+        verify(assetRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Nieznany wymiar breakdownu powinien rzucić InvalidBreakdownDimensionException")
+    void shouldRejectUnknownBreakdownDimension() {
+        assertThatThrownBy(() -> portfolioService.getPortfolioBreakdown("country"))
+                .isInstanceOf(InvalidBreakdownDimensionException.class);
+    }
+
+    // -----------------------------------------------
+    // Usuwanie
+    // -----------------------------------------------
+
+    @Test
+    @DisplayName("deleteAsset powinien wykonać jedno zapytanie DELETE bez odczytu encji")
+    void shouldDeleteSingleAssetWithOneStatement() {
+        when(assetRepository.deleteAssetById(1L)).thenReturn(1);
+
+        portfolioService.deleteAsset(1L);
+
+        verify(assetRepository).deleteAssetById(1L);
+        verifyNoMoreInteractions(assetRepository);
+    }
+
+    @Test
+    @DisplayName("Kolejne deleteAsset powinny odejmować assety z indeksu po id, bez ponownego findAll")
+    void shouldSubtractDeletedAssetsByIdWithoutRescan() {
+        when(assetRepository.findAll()).thenReturn(List.of(appleAsset, bitcoinAsset));
+        portfolioService.getPortfolioBreakdown("sector");
+
+        when(assetRepository.deleteAssetById(anyLong())).thenReturn(1);
+        portfolioService.deleteAsset(1L);
+        portfolioService.deleteAsset(2L);
+
+        PortfolioBreakdown breakdown = portfolioService.getPortfolioBreakdown("sector");
+        assertThat(breakdown.getGroups()).isEmpty();
+        assertThat(breakdown.getTotalCurrentValue()).isEqualByComparingTo(BigDecimal.ZERO);
+        verify(assetRepository, times(1)).findAll();
+        verify(assetRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("deleteAsset powinien rzucić AssetNotFoundException, gdy DELETE nie usunął żadnego wiersza")
+    void shouldThrowWhenDeletingMissingAsset() {
+        when(assetRepository.deleteAssetById(99L)).thenReturn(0);
+
+        assertThatThrownBy(() -> portfolioService.deleteAsset(99L))
+                .isInstanceOf(AssetNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Usuwanie po ids powinno zwrócić liczbę usuniętych i brakujące id oraz poprawić breakdown")
+    void shouldBulkDeleteByIdsAndReportMissing() {
+        when(assetRepository.findAll()).thenReturn(List.of(appleAsset, bitcoinAsset));
+        portfolioService.getPortfolioBreakdown("sector");
+
+        when(assetRepository.findExistingIds(List.of(2L, 7L))).thenReturn(List.of(2L));
+        when(assetRepository.deleteAssetsByIds(List.of(2L))).thenReturn(1);
+
+        BulkDeleteResult result = portfolioService.deleteAssets(List.of(2L, 7L, 2L), null, false);
+
+        assertThat(result.getDeletedCount()).isEqualTo(1);
+        assertThat(result.getMissingIds()).containsExactly(7L);
+        PortfolioBreakdown breakdown = portfolioService.getPortfolioBreakdown("sector");
+        assertThat(breakdown.getGroups()).extracting(GroupBreakdown::getGroup).containsExactly("Technology");
+        assertThat(breakdown.getTotalCurrentValue()).isEqualByComparingTo(new BigDecimal("1500"));
+    }
+
+    @Test
+    @DisplayName("Usuwanie po ids powinno dzielić listę id na paczki po 500")
+    void shouldChunkBulkDeleteByIds() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, 1200).boxed().toList();
+        when(assetRepository.findExistingIds(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(assetRepository.deleteAssetsByIds(any())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).size());
+
+        BulkDeleteResult result = portfolioService.deleteAssets(ids, null, false);
+
+        assertThat(result.getDeletedCount()).isEqualTo(1200);
+        assertThat(result.getMissingIds()).isEmpty();
+        verify(assetRepository, times(3)).findExistingIds(argThat(chunk -> chunk.size() <= 500));
+        verify(assetRepository, times(3)).deleteAssetsByIds(argThat(chunk -> chunk.size() <= 500));
+    }
+
+    @Test
+    @DisplayName("Usuwanie po wzorcu powinno usunąć dokładnie wybrane id i odjąć je z indeksu")
+    void shouldDeleteMatchingIdsOnPredicateDelete() {
+        when(assetRepository.findAll()).thenReturn(List.of(appleAsset, bitcoinAsset));
+        portfolioService.getPortfolioBreakdown("sector");
+
+        when(assetRepository.findIdsByNameLike("Bit%")).thenReturn(List.of(2L));
+        when(assetRepository.deleteAssetsByIds(List.of(2L))).thenReturn(1);
+
+        BulkDeleteResult result = portfolioService.deleteAssets(null, "Bit%", false);
+
+        assertThat(result.getDeletedCount()).isEqualTo(1);
+        assertThat(result.getMissingIds()).isEmpty();
+        PortfolioBreakdown breakdown = portfolioService.getPortfolioBreakdown("tag");
+        assertThat(breakdown.getGroups()).extracting(GroupBreakdown::getGroup).containsExactlyInAnyOrder("growth", "us");
+        assertThat(breakdown.getTotalCurrentValue()).isEqualByComparingTo(new BigDecimal("1500"));
+        verify(assetRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Usuwanie assetów z zerową ilością bez pasujących wierszy nie powinno wykonywać DELETE")
+    void shouldSkipDeleteWhenNothingMatches() {
+        when(assetRepository.findIdsWithZeroQuantity()).thenReturn(List.of());
+
+        BulkDeleteResult result = portfolioService.deleteAssets(null, null, true);
+
+        assertThat(result.getDeletedCount()).isZero();
+        verify(assetRepository, never()).deleteAssetsByIds(any());
+    }
+
+    @Test
+    @DisplayName("Usuwanie zbiorcze wymaga dokładnie jednego kryterium")
+    void shouldRejectBulkDeleteWithoutSingleCriterion() {
+        assertThatThrownBy(() -> portfolioService.deleteAssets(null, null, false))
+                .isInstanceOf(InvalidBulkDeleteException.class);
+        assertThatThrownBy(() -> portfolioService.deleteAssets(List.of(1L), "Test%", false))
+                .isInstanceOf(InvalidBulkDeleteException.class);
+    }
+
+    @Test
+    @DisplayName("Usuwanie zbiorcze powinno odrzucić puste id i listę ponad limit")
+    void shouldRejectBulkDeleteWithNullOrTooManyIds() {
+        assertThatThrownBy(() -> portfolioService.deleteAssets(Arrays.asList(1L, null, 2L), null, false))
+                .isInstanceOf(InvalidBulkDeleteException.class);
+
+        List<Long> tooMany = LongStream.rangeClosed(1, 10_001).boxed().toList();
+        assertThatThrownBy(() -> portfolioService.deleteAssets(tooMany, null, false))
+                .isInstanceOf(InvalidBulkDeleteException.class);
+
+        verify(assetRepository, never()).findExistingIds(any());
+        verify(assetRepository, never()).deleteAssetsByIds(any());
+    }
 }